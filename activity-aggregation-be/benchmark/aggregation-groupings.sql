@@ -0,0 +1,119 @@
+-- One EXPLAIN (ANALYZE, BUFFERS) per groupBy shape, mirroring the SQL Hibernate generates for the first page
+-- (size 25, default "natural" sort) of GET /api/activities/aggregate, followed by the total count
+-- ActivityQuerySupport.calculateTotal runs for the same page.
+-- CAST(date AS date) on a timestamptz depends on the session time zone, so no index on date can return rows
+-- already grouped by day; run this with the TimeZone the application uses.
+
+\echo '--- flattened (no groupBy)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.name, e.name, CAST(a.date AS date), SUM(a.hours)
+FROM activity a JOIN project p ON p.id = a.project_id JOIN employee e ON e.id = a.employee_id
+GROUP BY a.id, p.name, e.name, CAST(a.date AS date)
+ORDER BY a.id
+LIMIT 25;
+
+\echo '--- project'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.name, SUM(a.hours)
+FROM activity a JOIN project p ON p.id = a.project_id
+GROUP BY p.name
+ORDER BY MIN(p.id), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- employee'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.name, SUM(a.hours)
+FROM activity a JOIN employee e ON e.id = a.employee_id
+GROUP BY e.name
+ORDER BY MIN(e.id), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT CAST(a.date AS date), SUM(a.hours)
+FROM activity a
+GROUP BY CAST(a.date AS date)
+ORDER BY CAST(a.date AS date), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- project + employee'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.name, e.name, SUM(a.hours)
+FROM activity a JOIN project p ON p.id = a.project_id JOIN employee e ON e.id = a.employee_id
+GROUP BY p.name, e.name
+ORDER BY MIN(p.id), MIN(e.id), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- project + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.name, CAST(a.date AS date), SUM(a.hours)
+FROM activity a JOIN project p ON p.id = a.project_id
+GROUP BY p.name, CAST(a.date AS date)
+ORDER BY MIN(p.id), CAST(a.date AS date), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- employee + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.name, CAST(a.date AS date), SUM(a.hours)
+FROM activity a JOIN employee e ON e.id = a.employee_id
+GROUP BY e.name, CAST(a.date AS date)
+ORDER BY MIN(e.id), CAST(a.date AS date), SUM(a.hours) DESC
+LIMIT 25;
+
+\echo '--- project + employee + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.name, e.name, CAST(a.date AS date), SUM(a.hours)
+FROM activity a JOIN project p ON p.id = a.project_id JOIN employee e ON e.id = a.employee_id
+GROUP BY p.name, e.name, CAST(a.date AS date)
+ORDER BY MIN(p.id), MIN(e.id), CAST(a.date AS date), SUM(a.hours) DESC
+LIMIT 25;
+
+-- ActivityQuerySupport.calculateTotal: COUNT(*) for the flattened view, one row per group otherwise.
+-- The application fetches every group row and counts them, so the real cost also includes the transfer.
+
+\echo '--- total: flattened (no groupBy)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(a.id)
+FROM activity a;
+
+\echo '--- total: project'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN project p ON p.id = a.project_id
+GROUP BY p.name;
+
+\echo '--- total: employee'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN employee e ON e.id = a.employee_id
+GROUP BY e.name;
+
+\echo '--- total: date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a
+GROUP BY CAST(a.date AS date);
+
+\echo '--- total: project + employee'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN project p ON p.id = a.project_id JOIN employee e ON e.id = a.employee_id
+GROUP BY p.name, e.name;
+
+\echo '--- total: project + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN project p ON p.id = a.project_id
+GROUP BY p.name, CAST(a.date AS date);
+
+\echo '--- total: employee + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN employee e ON e.id = a.employee_id
+GROUP BY e.name, CAST(a.date AS date);
+
+\echo '--- total: project + employee + date'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1
+FROM activity a JOIN project p ON p.id = a.project_id JOIN employee e ON e.id = a.employee_id
+GROUP BY p.name, e.name, CAST(a.date AS date);
@@ -0,0 +1,22 @@
+-- Runs every grouping against the migrated schema and then with the candidate covering indexes.
+-- The candidates are created inside a transaction that is rolled back, so the database is left untouched;
+-- with \timing on, each CREATE INDEX also shows what the index costs to build after a restore or GENERATE.
+-- Usage: psql -U postgres -d activity_db -f benchmark/before-after.sql > benchmark/results.txt
+
+\timing on
+VACUUM (ANALYZE) activity;
+
+\echo '===== BEFORE: migrated indexes ====='
+\ir aggregation-groupings.sql
+
+\echo '===== AFTER: candidate covering indexes ====='
+BEGIN;
+-- project, project+employee, project+date, project+employee+date
+DROP INDEX idx_activity_agg;
+CREATE INDEX idx_activity_agg ON activity (project_id, employee_id, date) INCLUDE (hours);
+-- employee, employee+date; keeps the drill-down key order so it can replace idx_activity_employee_date
+DROP INDEX idx_activity_employee_date;
+CREATE INDEX idx_activity_employee_date ON activity (employee_id, date, id) INCLUDE (project_id, hours);
+ANALYZE activity;
+\ir aggregation-groupings.sql
+ROLLBACK;
@@ -0,0 +1,44 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the cache key of an aggregation query.
+ * Shared by {@code ActivityService} and the cache warmer so that both address the same entries.
+ */
+@Component(ActivityCacheKeyGenerator.BEAN_NAME)
+public class ActivityCacheKeyGenerator implements KeyGenerator {
+
+    public static final String BEAN_NAME = "activityCacheKeyGenerator";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object generate(Object target, Method method, Object... params) {
+        return keyFor((List<String>) params[0], (Pageable) params[1]);
+    }
+
+    /**
+     * Group names are lower-cased and de-duplicated, their order is kept since it drives the default sort.
+     */
+    public static String keyFor(List<String> groupBy, Pageable pageable) {
+        String groups = Optional.ofNullable(groupBy).orElse(Collections.emptyList()).stream()
+                .map(String::toLowerCase)
+                .distinct()
+                .collect(Collectors.joining(","));
+        if (pageable.isUnpaged()) {
+            return "groupBy=" + groups + ";unpaged";
+        }
+        return "groupBy=" + groups
+                + ";page=" + pageable.getPageNumber()
+                + ";size=" + pageable.getPageSize()
+                + ";sort=" + pageable.getSort();
+    }
+}
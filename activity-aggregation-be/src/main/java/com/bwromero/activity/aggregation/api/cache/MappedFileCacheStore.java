@@ -0,0 +1,216 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Off-heap key/value store backed by a memory-mapped, append-only file.
+ * <p>
+ * Layout: a header ({@code magic}, {@code end offset}) followed by records of
+ * {@code [key length][value length][key][value]}. A negative value length marks a removal.
+ * The in-memory index only keeps offsets, so values never live on the heap between reads.
+ * When the file is full, least recently used entries are dropped and the live records are compacted.
+ */
+@Slf4j
+public class MappedFileCacheStore implements Closeable {
+
+    private static final int MAGIC = 0x41414331;
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final LinkedHashMap<String, Slot> index = new LinkedHashMap<>(64, 0.75f, true);
+    private int writePosition;
+    private long liveBytes;
+
+    private record Slot(int offset, int keyLength, int valueLength) {
+        int size() {
+            return RECORD_HEADER_BYTES + keyLength + valueLength;
+        }
+
+        int valueOffset() {
+            return offset + RECORD_HEADER_BYTES + keyLength;
+        }
+    }
+
+    public MappedFileCacheStore(Path file, long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_BYTES || maxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxBytes must be between " + HEADER_BYTES + " and " + Integer.MAX_VALUE);
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.capacity = (int) maxBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        loadIndex();
+    }
+
+    public synchronized Optional<byte[]> get(String key) {
+        Slot slot = index.get(key);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        byte[] value = new byte[slot.valueLength()];
+        buffer.get(slot.valueOffset(), value);
+        return Optional.of(value);
+    }
+
+    /**
+     * Checks for an entry without reading it or touching its LRU position.
+     */
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized void put(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int size = RECORD_HEADER_BYTES + keyBytes.length + value.length;
+        if (size > capacity - HEADER_BYTES) {
+            log.debug("Skipping cache entry {}: {} bytes exceed store capacity", key, size);
+            return;
+        }
+        dropFromIndex(key);
+        if (writePosition + size > capacity) {
+            compact(size);
+        }
+        Slot slot = append(keyBytes, value, value.length);
+        index.put(key, slot);
+        liveBytes += slot.size();
+    }
+
+    public synchronized void remove(String key) {
+        if (dropFromIndex(key)) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            if (writePosition + RECORD_HEADER_BYTES + keyBytes.length > capacity) {
+                compact(0);
+            } else {
+                append(keyBytes, new byte[0], TOMBSTONE);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        liveBytes = 0;
+        writeHeader(HEADER_BYTES);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long usedBytes() {
+        return writePosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private Slot append(byte[] key, byte[] value, int valueLength) {
+        int offset = writePosition;
+        buffer.putInt(offset, key.length);
+        buffer.putInt(offset + Integer.BYTES, valueLength);
+        buffer.put(offset + RECORD_HEADER_BYTES, key);
+        buffer.put(offset + RECORD_HEADER_BYTES + key.length, value);
+        writeHeader(offset + RECORD_HEADER_BYTES + key.length + value.length);
+        return new Slot(offset, key.length, Math.max(valueLength, 0));
+    }
+
+    private boolean dropFromIndex(String key) {
+        Slot previous = index.remove(key);
+        if (previous != null) {
+            liveBytes -= previous.size();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Evicts least recently used entries until {@code required} bytes fit, then moves the remaining records
+     * to the front of the file. Records are moved in offset order, so a record is never overwritten before it is copied.
+     */
+    private void compact(int required) {
+        Iterator<Slot> lru = index.values().iterator();
+        while (lru.hasNext() && HEADER_BYTES + liveBytes + required > capacity) {
+            liveBytes -= lru.next().size();
+            lru.remove();
+        }
+
+        List<Map.Entry<String, Slot>> byOffset = new ArrayList<>(index.entrySet());
+        byOffset.sort(Comparator.comparingInt(e -> e.getValue().offset()));
+
+        int position = HEADER_BYTES;
+        for (Map.Entry<String, Slot> entry : byOffset) {
+            Slot slot = entry.getValue();
+            if (slot.offset() != position) {
+                byte[] record = new byte[slot.size()];
+                buffer.get(slot.offset(), record);
+                buffer.put(position, record);
+            }
+            entry.setValue(new Slot(position, slot.keyLength(), slot.valueLength()));
+            position += slot.size();
+        }
+        writeHeader(position);
+        log.debug("Compacted cache store to {} entries ({} bytes)", index.size(), position);
+    }
+
+    private void loadIndex() {
+        if (buffer.getInt(0) != MAGIC) {
+            clear();
+            return;
+        }
+        long end = buffer.getLong(Integer.BYTES);
+        if (end < HEADER_BYTES || end > capacity) {
+            log.warn("Cache store header is inconsistent, starting empty");
+            clear();
+            return;
+        }
+
+        int position = HEADER_BYTES;
+        while (position + RECORD_HEADER_BYTES <= end) {
+            int keyLength = buffer.getInt(position);
+            int valueLength = buffer.getInt(position + Integer.BYTES);
+            int recordEnd = position + RECORD_HEADER_BYTES + keyLength + Math.max(valueLength, 0);
+            if (keyLength < 0 || valueLength < TOMBSTONE || recordEnd > end) {
+                log.warn("Cache store is truncated at offset {}, dropping the tail", position);
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(position + RECORD_HEADER_BYTES, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+
+            dropFromIndex(key);
+            if (valueLength != TOMBSTONE) {
+                Slot slot = new Slot(position, keyLength, valueLength);
+                index.put(key, slot);
+                liveBytes += slot.size();
+            }
+            position = recordEnd;
+        }
+        writeHeader(position);
+        log.info("Opened cache store with {} entries ({} bytes)", index.size(), position);
+    }
+
+    private void writeHeader(int end) {
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(Integer.BYTES, end);
+        writePosition = end;
+    }
+}
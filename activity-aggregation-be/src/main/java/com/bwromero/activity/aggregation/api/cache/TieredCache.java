@@ -0,0 +1,165 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.io.*;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Two-level cache: a small on-heap L1 in front of a persistent, off-heap {@link MappedFileCacheStore} L2.
+ * <p>
+ * L2 keys are prefixed with the current data version, so entries written for a different dataset are never
+ * served, not even after a restart. L1 is dropped as soon as the data version changes, and a value loaded while
+ * the version changed is returned but not cached, since it may have been read from the previous data.
+ */
+@Slf4j
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private static final ObjectInputFilter VALUE_FILTER = ObjectInputFilter.Config.createFilter(
+            "com.bwromero.activity.aggregation.api.**;org.springframework.data.domain.**;java.**;!*");
+
+    private final Cache l1;
+    private final MappedFileCacheStore l2;
+    private final Supplier<String> dataVersion;
+    private final ConcurrentMap<Object, Object> loadLocks = new ConcurrentHashMap<>();
+    private volatile String l1Version;
+
+    public TieredCache(Cache l1, MappedFileCacheStore l2, Supplier<String> dataVersion) {
+        super(false);
+        this.l1 = l1;
+        this.l2 = l2;
+        this.dataVersion = dataVersion;
+    }
+
+    @Override
+    public String getName() {
+        return l1.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String version = currentVersion();
+        ValueWrapper cached = l1.get(key);
+        if (cached != null) {
+            return cached.get();
+        }
+        Object value = l2.get(l2Key(version, key))
+                .map(bytes -> deserialize(version, key, bytes))
+                .orElse(null);
+        if (value != null) {
+            l1.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether a value is cached for the current data version, without deserializing or promoting it.
+     */
+    public boolean contains(Object key) {
+        String version = currentVersion();
+        return l1.get(key) != null || l2.contains(l2Key(version, key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        Object lock = loadLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                value = lookup(key);
+                if (value == null) {
+                    String version = currentVersion();
+                    try {
+                        value = valueLoader.call();
+                    } catch (Exception e) {
+                        throw new ValueRetrievalException(key, valueLoader, e);
+                    }
+                    if (Objects.equals(version, dataVersion.get())) {
+                        put(key, value);
+                    } else {
+                        log.debug("Data version changed while loading {}, not caching it", key);
+                    }
+                }
+                return (T) value;
+            }
+        } finally {
+            loadLocks.remove(key, lock);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        String version = currentVersion();
+        l1.put(key, value);
+        byte[] bytes = serialize(value);
+        if (bytes != null) {
+            l2.put(l2Key(version, key), bytes);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        l2.remove(l2Key(currentVersion(), key));
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        l2.clear();
+    }
+
+    private String currentVersion() {
+        String version = dataVersion.get();
+        if (!Objects.equals(version, l1Version)) {
+            l1.clear();
+            l1Version = version;
+        }
+        return version;
+    }
+
+    private String l2Key(String version, Object key) {
+        return getName() + ":" + version + ":" + key;
+    }
+
+    private byte[] serialize(Object value) {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            log.warn("Value of type {} is not serializable, keeping it in L1 only", value.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    private Object deserialize(String version, Object key, byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(VALUE_FILTER);
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Dropping unreadable L2 entry {}", key, e);
+            l2.remove(l2Key(version, key));
+            return null;
+        }
+    }
+}
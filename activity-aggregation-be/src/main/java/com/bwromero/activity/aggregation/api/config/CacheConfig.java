@@ -0,0 +1,72 @@
+package com.bwromero.activity.aggregation.api.config;
+
+import com.bwromero.activity.aggregation.api.cache.MappedFileCacheStore;
+import com.bwromero.activity.aggregation.api.cache.TieredCache;
+import com.bwromero.activity.aggregation.api.service.DataVersionService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(CacheWarmingProperties.class)
+public class CacheConfig {
+
+    public static final String ACTIVITIES_CACHE = "activities";
+    public static final String CACHE_WARMER_EXECUTOR = "cacheWarmerExecutor";
+
+    @Value("${app.cache.l1.maximum-size:200}")
+    private long l1MaximumSize;
+
+    @Value("${app.cache.l1.expire-after-write:5m}")
+    private Duration l1ExpireAfterWrite;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public MappedFileCacheStore activitiesL2Store(
+            @Value("${app.cache.l2.file:data/cache/activities.l2}") Path file,
+            @Value("${app.cache.l2.max-bytes:256MB}") DataSize maxBytes) throws IOException {
+        return new MappedFileCacheStore(file, maxBytes.toBytes());
+    }
+
+    /**
+     * Single thread that runs warm-ups from a priority queue, most requested first.
+     */
+    @Bean(name = CACHE_WARMER_EXECUTOR, destroyMethod = "shutdownNow")
+    public ExecutorService cacheWarmerExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), Thread.ofPlatform().name("cache-warmer-", 0).daemon().factory());
+    }
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<MappedFileCacheStore> l2Store, DataVersionService dataVersionService) {
+        Cache l1 = new CaffeineCache(ACTIVITIES_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(l1ExpireAfterWrite)
+                .maximumSize(l1MaximumSize)
+                .build());
+
+        MappedFileCacheStore l2 = l2Store.getIfAvailable();
+        Cache activities = l2 != null ? new TieredCache(l1, l2, dataVersionService::currentVersion) : l1;
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(activities));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bwromero.activity.aggregation.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the cache warmer, see {@link com.bwromero.activity.aggregation.api.service.CacheWarmingService}.
+ */
+@ConfigurationProperties("app.cache.warm")
+public record CacheWarmingProperties(
+        Boolean enabled,
+        Integer topQueries,
+        Duration interval,
+        Duration pause,
+        Double maxPoolUsage
+) {
+    public CacheWarmingProperties {
+        enabled = enabled == null || enabled;
+        topQueries = topQueries != null ? topQueries : 40;
+        interval = interval != null ? interval : Duration.ofMinutes(4);
+        pause = pause != null ? pause : Duration.ofMillis(100);
+        maxPoolUsage = maxPoolUsage != null ? maxPoolUsage : 0.5;
+    }
+}
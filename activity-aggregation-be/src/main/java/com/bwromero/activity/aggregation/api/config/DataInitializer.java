@@ -1,16 +1,30 @@
 package com.bwromero.activity.aggregation.api.config;
 
 import com.bwromero.activity.aggregation.api.service.DataSeedService;
+import com.bwromero.activity.aggregation.api.service.DataSnapshotService;
+import com.bwromero.activity.aggregation.api.service.DataVersionService;
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class DataInitializer implements CommandLineRunner {
 
     private final DataSeedService seedService;
+    private final DataSnapshotService snapshotService;
+    private final DataVersionService dataVersionService;
+
+    @Value("${app.seed.mode:AUTO}")
+    private SeedMode mode;
 
     @Value("${app.seed.use-demo:true}")
     private boolean useDemo;
@@ -18,8 +32,45 @@ public class DataInitializer implements CommandLineRunner {
     @Value("${app.seed.total-rows:100000}")
     private int totalRows;
 
+    @Value("${app.seed.snapshot-file:data/activity-snapshot.bin.gz}")
+    private Path snapshotFile;
+
     @Override
-    public void run(String... args) {
-        seedService.resetAndSeedDatabase(totalRows, 5000, useDemo);
+    public void run(String... args) throws IOException {
+        if (mode == SeedMode.AUTO) {
+            Fingerprint actual = dataVersionService.refresh();
+            if (actual.rowCount() > 0) {
+                keepExistingData(actual);
+                return;
+            }
+        }
+
+        if (mode != SeedMode.GENERATE && Files.exists(snapshotFile)) {
+            Fingerprint expected = snapshotService.restoreSnapshot(snapshotFile);
+            if (!expected.equals(dataVersionService.refresh())) {
+                log.warn("Restored dataset does not match the snapshot fingerprint {}", expected.version());
+            }
+        } else if (mode == SeedMode.RESTORE) {
+            throw new IllegalStateException("Seed mode is RESTORE but snapshot " + snapshotFile + " does not exist");
+        } else {
+            seedService.resetAndSeedDatabase(totalRows, 5000, useDemo);
+            dataVersionService.refresh();
+        }
+        snapshotService.vacuumAnalyze();
+        dataVersionService.recordFingerprint(dataVersionService.current());
+    }
+
+    /**
+     * AUTO never replaces rows that are already there. A fingerprint that differs from the recorded one only means
+     * the data was changed outside of seeding, so it is logged and recorded as the new baseline.
+     */
+    private void keepExistingData(Fingerprint actual) {
+        if (dataVersionService.recordedFingerprint().filter(actual::equals).isPresent()) {
+            log.info("Dataset matches the recorded fingerprint {}, skipping seeding", actual.version());
+            return;
+        }
+        log.warn("Keeping {} existing activities that do not match the recorded fingerprint, "
+                + "set app.seed.mode=RESTORE or GENERATE to replace them", actual.rowCount());
+        dataVersionService.recordFingerprint(actual);
     }
 }
@@ -0,0 +1,75 @@
+package com.bwromero.activity.aggregation.api.config;
+
+import com.bwromero.activity.aggregation.api.datasource.DataSourcePool;
+import com.bwromero.activity.aggregation.api.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replica pools and everything else to the primary.
+ * <p>
+ * {@link LazyConnectionDataSourceProxy} defers fetching the physical connection until the first statement,
+ * by which time the transaction manager has marked the connection read-only, and then takes it from
+ * {@link ReplicaRoutingDataSource} instead of the primary pool.
+ * <p>
+ * The primary pool is built from {@code spring.datasource.*} and {@code spring.datasource.hikari.*},
+ * like the one Spring Boot would have auto-configured.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceRoutingProperties properties,
+                                                             HikariDataSource primaryDataSource) {
+        DataSourcePool primary = new DataSourcePool("primary", primaryDataSource);
+        List<DataSourcePool> replicas = properties.replicas().stream()
+                .map(replica -> new DataSourcePool(replica.name(), createReplicaPool(replica)))
+                .toList();
+        log.info("Routing read-only transactions to {} replica(s) using {}", replicas.size(), properties.strategy());
+        return new ReplicaRoutingDataSource(primary, replicas, properties.strategy());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getPrimaryDataSource());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    private static HikariDataSource createReplicaPool(DataSourceRoutingProperties.Replica replica) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(replica.name());
+        config.setJdbcUrl(replica.url());
+        config.setUsername(replica.username());
+        config.setPassword(replica.password());
+        config.setReadOnly(true);
+        if (replica.maximumPoolSize() != null) {
+            config.setMaximumPoolSize(replica.maximumPoolSize());
+        }
+        return new HikariDataSource(config);
+    }
+}
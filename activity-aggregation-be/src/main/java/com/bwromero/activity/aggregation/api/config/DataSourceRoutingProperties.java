@@ -0,0 +1,28 @@
+package com.bwromero.activity.aggregation.api.config;
+
+import com.bwromero.activity.aggregation.api.datasource.ReplicaSelectionStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replica pools for read-only transactions. The primary is configured through {@code spring.datasource.*}.
+ * Routing itself is switched on with {@code app.datasource.routing.enabled}, which the routing beans are conditional on.
+ */
+@ConfigurationProperties("app.datasource.routing")
+public record DataSourceRoutingProperties(
+        ReplicaSelectionStrategy strategy,
+        Duration maxLag,
+        Duration healthCheckInterval,
+        List<Replica> replicas
+) {
+    public DataSourceRoutingProperties {
+        strategy = strategy != null ? strategy : ReplicaSelectionStrategy.ROUND_ROBIN;
+        maxLag = maxLag != null ? maxLag : Duration.ofSeconds(10);
+        healthCheckInterval = healthCheckInterval != null ? healthCheckInterval : Duration.ofSeconds(5);
+        replicas = replicas != null ? replicas : List.of();
+    }
+
+    public record Replica(String name, String url, String username, String password, Integer maximumPoolSize) {}
+}
@@ -0,0 +1,43 @@
+package com.bwromero.activity.aggregation.api.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fails startup when the indexes the aggregations and the drill-down rely on are missing.
+ * Hibernate's {@code ddl-auto=validate} only checks tables and columns, indexes come from the Flyway migrations.
+ */
+@Component
+@ConditionalOnProperty(name = "app.schema.verify", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaVerifier implements InitializingBean {
+
+    private static final List<String> REQUIRED_INDEXES = List.of(
+            "idx_activity_agg",
+            "idx_activity_project_date",
+            "idx_activity_employee_date",
+            "idx_activity_date_id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> missing = new HashSet<>(REQUIRED_INDEXES);
+        missing.removeAll(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = 'activity'",
+                String.class));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Schema is missing indexes " + missing + ", check the Flyway migrations");
+        }
+        log.info("Schema verified: all {} required indexes present", REQUIRED_INDEXES.size());
+    }
+}
@@ -0,0 +1,13 @@
+package com.bwromero.activity.aggregation.api.config;
+
+/**
+ * How {@link DataInitializer} prepares the dataset on startup.
+ */
+public enum SeedMode {
+    /** Keep the data whenever the activity table has rows; an empty table is restored from the snapshot, otherwise generated. */
+    AUTO,
+    /** Always restore from the snapshot file; fails if it is missing. */
+    RESTORE,
+    /** Always truncate and generate fresh data. */
+    GENERATE
+}
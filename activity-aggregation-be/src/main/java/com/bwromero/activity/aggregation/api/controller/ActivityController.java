@@ -1,14 +1,22 @@
 package com.bwromero.activity.aggregation.api.controller;
 
 import com.bwromero.activity.aggregation.api.service.ActivityService;
+import com.bwromero.activity.aggregation.api.service.CacheWarmingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
 
 @RestController
 @RequestMapping("/api/activities")
@@ -16,12 +24,31 @@ import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
 @RequiredArgsConstructor
 public class ActivityController {
 
+    private static final int MAX_DRILL_DOWN_SIZE = 500;
+
     private final ActivityService service;
+    private final CacheWarmingService cacheWarmingService;
 
     @GetMapping("/aggregate")
     public Page<ActivityResponse> getAggregated(
             @RequestParam(required = false) List<String> groupBy,
             Pageable pageable) {
+        cacheWarmingService.recordRequest(groupBy, pageable);
         return service.getAggregatedActivities(groupBy, pageable);
     }
+
+    @GetMapping("/drill-down")
+    public DrillDownResponse getDrillDown(
+            @RequestParam(required = false) String project,
+            @RequestParam(required = false) String employee,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        if ((afterDate == null) != (afterId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterDate and afterId must be provided together");
+        }
+        int pageSize = Math.clamp(size, 1, MAX_DRILL_DOWN_SIZE);
+        return service.getDrillDown(new DrillDownRequest(project, employee, date, afterDate, afterId, pageSize));
+    }
 }
@@ -0,0 +1,45 @@
+package com.bwromero.activity.aggregation.api.controller;
+
+import com.bwromero.activity.aggregation.api.datasource.ReplicaRoutingDataSource;
+import com.bwromero.activity.aggregation.api.dto.CacheWarmingReport;
+import com.bwromero.activity.aggregation.api.dto.DataSourcePoolStats;
+import com.bwromero.activity.aggregation.api.dto.SnapshotResponse;
+import com.bwromero.activity.aggregation.api.service.CacheWarmingService;
+import com.bwromero.activity.aggregation.api.service.DataSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final DataSnapshotService snapshotService;
+    private final CacheWarmingService cacheWarmingService;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @Value("${app.seed.snapshot-file:data/activity-snapshot.bin.gz}")
+    private Path snapshotFile;
+
+    @PostMapping("/snapshot")
+    public SnapshotResponse exportSnapshot() throws IOException {
+        return snapshotService.exportSnapshot(snapshotFile);
+    }
+
+    @GetMapping("/cache/warming")
+    public CacheWarmingReport getCacheWarmingReport() {
+        return cacheWarmingService.getReport();
+    }
+
+    @GetMapping("/datasources")
+    public List<DataSourcePoolStats> getDataSourceStats() {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        return routing != null ? routing.getStats() : List.of();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bwromero.activity.aggregation.api.datasource;
+
+import com.bwromero.activity.aggregation.api.dto.DataSourcePoolStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named connection pool together with its health and routing counters.
+ */
+@RequiredArgsConstructor
+public class DataSourcePool {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final DataSource dataSource;
+
+    private final LongAdder routedReads = new LongAdder();
+    @Getter
+    private volatile boolean healthy = true;
+    @Getter
+    private volatile boolean caughtUp = true;
+    private volatile double lagSeconds;
+
+    void recordRoutedRead() {
+        routedReads.increment();
+    }
+
+    void markHealthy(double lagSeconds) {
+        this.healthy = true;
+        this.lagSeconds = lagSeconds;
+    }
+
+    void markUnhealthy(double lagSeconds) {
+        this.healthy = false;
+        this.lagSeconds = lagSeconds;
+    }
+
+    void markCaughtUp(boolean caughtUp) {
+        this.caughtUp = caughtUp;
+    }
+
+    boolean isServingReads() {
+        return healthy && caughtUp;
+    }
+
+    int activeConnections() {
+        HikariPoolMXBean pool = hikariPool();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    /**
+     * Share of the pool's maximum size that is currently checked out, between 0 and 1.
+     */
+    double usage() {
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+        return pool != null ? (double) pool.getActiveConnections() / hikari.getMaximumPoolSize() : 0;
+    }
+
+    public DataSourcePoolStats stats(String role) {
+        HikariPoolMXBean pool = hikariPool();
+        return new DataSourcePoolStats(
+                name,
+                role,
+                healthy,
+                lagSeconds,
+                routedReads.sum(),
+                pool != null ? pool.getActiveConnections() : 0,
+                pool != null ? pool.getIdleConnections() : 0,
+                pool != null ? pool.getTotalConnections() : 0,
+                pool != null ? pool.getThreadsAwaitingConnection() : 0);
+    }
+
+    void close() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        HikariDataSource hikari = hikari();
+        return hikari != null ? hikari.getHikariPoolMXBean() : null;
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
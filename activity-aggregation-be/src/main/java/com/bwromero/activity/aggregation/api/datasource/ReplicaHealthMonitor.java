@@ -0,0 +1,34 @@
+package com.bwromero.activity.aggregation.api.datasource;
+
+import com.bwromero.activity.aggregation.api.config.DataSourceRoutingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Re-checks replica lag every {@code app.datasource.routing.health-check-interval}, taking the default from
+ * {@link DataSourceRoutingProperties}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaHealthMonitor implements SchedulingConfigurer {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final DataSourceRoutingProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(
+                this::checkReplicas, properties.healthCheckInterval(), Duration.ZERO));
+    }
+
+    public void checkReplicas() {
+        replicaRoutingDataSource.checkReplicas(properties.maxLag());
+    }
+}
@@ -0,0 +1,197 @@
+package com.bwromero.activity.aggregation.api.datasource;
+
+import com.bwromero.activity.aggregation.api.dto.DataSourcePoolStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the routing DataSource: hands out connections from the healthy replicas and falls back to the
+ * primary when none is available. Used as the read-only target of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so only read-only transactions get here.
+ * <p>
+ * After a bulk data change, {@link #fenceAtPrimaryPosition()} keeps every replica out of rotation until a health
+ * check has seen it replay the primary's WAL position at that moment.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END,
+            NOT pg_is_in_recovery() OR pg_wal_lsn_diff(pg_last_wal_replay_lsn(), ?::pg_lsn) >= 0""";
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+    private static final String NO_FENCE = "0/0";
+
+    private final DataSourcePool primary;
+    private final List<DataSourcePool> replicas;
+    private final ReplicaSelectionStrategy strategy;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile String fenceLsn = NO_FENCE;
+    private volatile boolean fencePending;
+
+    public ReplicaRoutingDataSource(DataSourcePool primary, List<DataSourcePool> replicas, ReplicaSelectionStrategy strategy) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSourcePool replica = selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replica.recordRoutedRead();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} refused a connection, reading from the primary", replica.getName(), e);
+                replica.markUnhealthy(0);
+            }
+        }
+        Connection connection = primary.getDataSource().getConnection();
+        primary.recordRoutedRead();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the credentials of the configured pools");
+    }
+
+    public DataSource getPrimaryDataSource() {
+        return primary.getDataSource();
+    }
+
+    /**
+     * Takes every replica out of rotation until it has replayed the primary's current WAL position.
+     * Called before a new data version becomes current, so nothing read from a replica that still has the previous
+     * data can be cached under the new version. If the position cannot be read, replicas stay out of rotation and
+     * the next health check tries again.
+     */
+    public synchronized void fenceAtPrimaryPosition() {
+        replicas.forEach(replica -> replica.markCaughtUp(false));
+        fencePending = true;
+        readFence();
+    }
+
+    /**
+     * Probes every replica and takes it out of rotation while it is unreachable, lags more than {@code maxLag}
+     * or has not yet replayed up to the last fence.
+     */
+    public synchronized void checkReplicas(Duration maxLag) {
+        if (fencePending && !readFence()) {
+            return;
+        }
+        for (DataSourcePool replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection();
+                 PreparedStatement statement = prepareLagQuery(connection);
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                boolean caughtUp = rs.getBoolean(2);
+                if (caughtUp && !replica.isCaughtUp()) {
+                    log.info("Replica {} replayed past {}, routing reads to it again", replica.getName(), fenceLsn);
+                }
+                replica.markCaughtUp(caughtUp);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    if (replica.isHealthy()) {
+                        log.warn("Replica {} lags {}s behind the primary, routing reads away from it", replica.getName(), lagSeconds);
+                    }
+                    replica.markUnhealthy(lagSeconds);
+                } else {
+                    if (!replica.isHealthy()) {
+                        log.info("Replica {} is healthy again", replica.getName());
+                    }
+                    replica.markHealthy(lagSeconds);
+                }
+            } catch (SQLException e) {
+                if (replica.isHealthy()) {
+                    log.warn("Replica {} failed its health check, routing reads away from it", replica.getName(), e);
+                }
+                replica.markUnhealthy(0);
+            }
+        }
+    }
+
+    /**
+     * Usage of the pool the next read-only connection would be taken from, between 0 and 1.
+     */
+    public double readPoolUsage() {
+        List<DataSourcePool> healthy = healthyReplicas();
+        if (healthy.isEmpty()) {
+            return primary.usage();
+        }
+        return switch (strategy) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(nextReplica.get(), healthy.size())).usage();
+            case LEAST_BUSY -> healthy.stream().mapToDouble(DataSourcePool::usage).min().orElseThrow();
+        };
+    }
+
+    public List<DataSourcePoolStats> getStats() {
+        List<DataSourcePoolStats> stats = new ArrayList<>();
+        stats.add(primary.stats("primary"));
+        replicas.forEach(replica -> stats.add(replica.stats("replica")));
+        return stats;
+    }
+
+    /**
+     * Closes the replica pools. The primary pool is owned by whoever created it.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(DataSourcePool::close);
+    }
+
+    private PreparedStatement prepareLagQuery(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(LAG_QUERY);
+        statement.setString(1, fenceLsn);
+        return statement;
+    }
+
+    private boolean readFence() {
+        try (Connection connection = primary.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            rs.next();
+            fenceLsn = rs.getString(1);
+            fencePending = false;
+            log.info("Replicas must replay past {} before serving reads again", fenceLsn);
+            return true;
+        } catch (SQLException e) {
+            log.warn("Could not read the primary WAL position, keeping reads on the primary", e);
+            return false;
+        }
+    }
+
+    private DataSourcePool selectReplica() {
+        List<DataSourcePool> healthy = healthyReplicas();
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return switch (strategy) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+            case LEAST_BUSY -> healthy.stream().min(Comparator.comparingInt(DataSourcePool::activeConnections)).orElseThrow();
+        };
+    }
+
+    private List<DataSourcePool> healthyReplicas() {
+        return replicas.stream().filter(DataSourcePool::isServingReads).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bwromero.activity.aggregation.api.datasource;
+
+/**
+ * How {@link ReplicaRoutingDataSource} spreads read-only connections across healthy replicas.
+ */
+public enum ReplicaSelectionStrategy {
+    ROUND_ROBIN,
+    /** Pick the replica with the fewest active connections. */
+    LEAST_BUSY
+}
@@ -0,0 +1,14 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only projection of a single activity, returned by the drill-down endpoint instead of the managed entity.
+ */
+public record ActivityDetailResponse(
+        Long id,
+        String project,
+        String employee,
+        ZonedDateTime date,
+        Integer hours
+) {}
@@ -1,14 +1,16 @@
 package com.bwromero.activity.aggregation.api.dto;
 
+import java.io.Serializable;
 import java.sql.Date;
 
 /**
  * DTO for aggregated activity data.
  * The field types must match the types projected in ActivityRepositoryImpl.
+ * Serializable so that cached pages can be persisted by the L2 cache.
  */
 public record ActivityResponse(
         String project,
         String employee,
         Date date,
         Integer hours
-) {}
\ No newline at end of file
+) implements Serializable {}
\ No newline at end of file
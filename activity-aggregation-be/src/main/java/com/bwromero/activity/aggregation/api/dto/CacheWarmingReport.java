@@ -0,0 +1,18 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+import java.time.Instant;
+
+/**
+ * Effectiveness of the cache warmer.
+ * {@code warmCoverage} is the share of recorded request volume whose query is currently pre-warmed,
+ * {@code prewarmedHits} counts user requests answered from an entry written by the warmer.
+ */
+public record CacheWarmingReport(
+        int trackedQueries,
+        int warmedQueries,
+        double warmCoverage,
+        long requests,
+        long prewarmedHits,
+        double prewarmedHitRatio,
+        Instant lastRunAt
+) {}
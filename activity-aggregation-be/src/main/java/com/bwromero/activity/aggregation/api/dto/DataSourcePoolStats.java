@@ -0,0 +1,17 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+/**
+ * Load and health of one connection pool behind the routing DataSource.
+ * {@code routedReads} counts read-only connections handed out by the pool; for the primary these are fallbacks.
+ */
+public record DataSourcePoolStats(
+        String name,
+        String role,
+        boolean healthy,
+        double lagSeconds,
+        long routedReads,
+        int activeConnections,
+        int idleConnections,
+        int totalConnections,
+        int threadsAwaitingConnection
+) {}
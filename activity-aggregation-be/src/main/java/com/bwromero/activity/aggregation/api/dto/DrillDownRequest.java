@@ -0,0 +1,17 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Filters of a drill-down query. Any group key may be {@code null} to leave it unfiltered.
+ * {@code afterDate} and {@code afterId} form the keyset cursor: the (date, id) of the last row already returned.
+ */
+public record DrillDownRequest(
+        String project,
+        String employee,
+        LocalDate date,
+        ZonedDateTime afterDate,
+        Long afterId,
+        int size
+) {}
@@ -0,0 +1,14 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A keyset page of activities. Pass {@code nextAfterDate} and {@code nextAfterId} back to fetch the following page.
+ */
+public record DrillDownResponse(
+        List<ActivityDetailResponse> content,
+        boolean hasNext,
+        ZonedDateTime nextAfterDate,
+        Long nextAfterId
+) {}
@@ -0,0 +1,12 @@
+package com.bwromero.activity.aggregation.api.dto;
+
+/**
+ * Summary of an exported dataset snapshot.
+ */
+public record SnapshotResponse(
+        String file,
+        int projects,
+        int employees,
+        long activities,
+        String dataVersion
+) {}
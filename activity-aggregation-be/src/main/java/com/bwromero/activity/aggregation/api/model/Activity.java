@@ -9,9 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.ZonedDateTime;
 
 @Entity
-@Table(name = "activity", indexes = {
-        @Index(name = "idx_activity_agg", columnList = "project_id, employee_id, date")
-})
+@Table(name = "activity")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
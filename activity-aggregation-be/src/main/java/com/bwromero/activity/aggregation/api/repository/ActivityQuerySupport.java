@@ -1,7 +1,9 @@
 package com.bwromero.activity.aggregation.api.repository;
 
+import com.bwromero.activity.aggregation.api.dto.ActivityDetailResponse;
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
 import com.bwromero.activity.aggregation.api.model.QActivity;
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -10,6 +12,9 @@ import lombok.experimental.UtilityClass;
 import org.springframework.data.domain.Sort;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -120,6 +125,48 @@ public class ActivityQuerySupport {
                 .fetch().size();
     }
 
+    public static Expression<ActivityDetailResponse> createDetailProjection(QActivity activity) {
+        return Projections.constructor(ActivityDetailResponse.class,
+                activity.id,
+                activity.project.name,
+                activity.employee.name,
+                activity.date,
+                activity.hours
+        );
+    }
+
+    /**
+     * Filters on foreign keys and a half-open date range rather than on names and {@code CAST(date AS date)},
+     * so that the predicate and the (date, id) keyset order can be served by the drill-down indexes of V4.
+     */
+    public static Predicate createDrillDownFilter(QActivity activity, List<Long> projectIds, List<Long> employeeIds,
+                                                  LocalDate date, ZoneId zone) {
+        BooleanBuilder filter = new BooleanBuilder();
+        if (projectIds != null) {
+            filter.and(activity.project.id.in(projectIds));
+        }
+        if (employeeIds != null) {
+            filter.and(activity.employee.id.in(employeeIds));
+        }
+        if (date != null) {
+            filter.and(activity.date.goe(date.atStartOfDay(zone)));
+            filter.and(activity.date.lt(date.plusDays(1).atStartOfDay(zone)));
+        }
+        return filter;
+    }
+
+    /**
+     * Keyset condition for rows ordered by (date, id) that come after the given cursor.
+     * Returns {@code null} (no condition) for the first page.
+     */
+    public static Predicate keysetAfter(QActivity activity, ZonedDateTime afterDate, Long afterId) {
+        if (afterDate == null || afterId == null) {
+            return null;
+        }
+        return activity.date.goe(afterDate)
+                .and(activity.date.gt(afterDate).or(activity.id.gt(afterId)));
+    }
+
     private static boolean isPathInGroups(Expression<?> path, List<Expression<?>> groups) {
         return groups.stream().anyMatch(g -> g.equals(path) || g.toString().equals(path.toString()));
     }
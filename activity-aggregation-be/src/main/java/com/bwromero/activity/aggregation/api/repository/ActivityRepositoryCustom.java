@@ -1,6 +1,8 @@
 package com.bwromero.activity.aggregation.api.repository;
 
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -8,4 +10,6 @@ import java.util.List;
 
 public interface ActivityRepositoryCustom {
     Page<ActivityResponse> findAggregatedDynamic(List<String> groupBy, Pageable pageable);
+
+    DrillDownResponse findDrillDown(DrillDownRequest request);
 }
\ No newline at end of file
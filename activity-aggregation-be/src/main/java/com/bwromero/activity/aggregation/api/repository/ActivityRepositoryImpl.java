@@ -1,7 +1,12 @@
 package com.bwromero.activity.aggregation.api.repository;
 
+import com.bwromero.activity.aggregation.api.dto.ActivityDetailResponse;
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
 import com.bwromero.activity.aggregation.api.model.QActivity;
+import com.bwromero.activity.aggregation.api.model.QEmployee;
+import com.bwromero.activity.aggregation.api.model.QProject;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -12,6 +17,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.ZoneId;
 import java.util.*;
 
 import static com.bwromero.activity.aggregation.api.repository.ActivityQuerySupport.*;
@@ -47,4 +53,42 @@ public class ActivityRepositoryImpl implements ActivityRepositoryCustom {
 
         return new PageImpl<>(content, pageable, total);
     }
-}
\ No newline at end of file
+
+    @Override
+    public DrillDownResponse findDrillDown(DrillDownRequest request) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
+        QActivity activity = QActivity.activity;
+
+        List<Long> projectIds = request.project() != null ? findProjectIds(queryFactory, request.project()) : null;
+        List<Long> employeeIds = request.employee() != null ? findEmployeeIds(queryFactory, request.employee()) : null;
+        if ((projectIds != null && projectIds.isEmpty()) || (employeeIds != null && employeeIds.isEmpty())) {
+            return new DrillDownResponse(List.of(), false, null, null);
+        }
+
+        List<ActivityDetailResponse> rows = queryFactory
+                .select(createDetailProjection(activity))
+                .from(activity)
+                .where(createDrillDownFilter(activity, projectIds, employeeIds, request.date(), ZoneId.systemDefault()),
+                        keysetAfter(activity, request.afterDate(), request.afterId()))
+                .orderBy(activity.date.asc(), activity.id.asc())
+                .limit(request.size() + 1L)
+                .fetch();
+
+        if (rows.size() <= request.size()) {
+            return new DrillDownResponse(rows, false, null, null);
+        }
+        List<ActivityDetailResponse> content = rows.subList(0, request.size());
+        ActivityDetailResponse last = content.getLast();
+        return new DrillDownResponse(content, true, last.date(), last.id());
+    }
+
+    private List<Long> findProjectIds(JPAQueryFactory queryFactory, String name) {
+        QProject project = QProject.project;
+        return queryFactory.select(project.id).from(project).where(project.name.eq(name)).fetch();
+    }
+
+    private List<Long> findEmployeeIds(JPAQueryFactory queryFactory, String name) {
+        QEmployee employee = QEmployee.employee;
+        return queryFactory.select(employee.id).from(employee).where(employee.name.eq(name)).fetch();
+    }
+}
@@ -1,12 +1,17 @@
 package com.bwromero.activity.aggregation.api.service;
 
+import com.bwromero.activity.aggregation.api.cache.ActivityCacheKeyGenerator;
+import com.bwromero.activity.aggregation.api.config.CacheConfig;
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
 import com.bwromero.activity.aggregation.api.repository.ActivityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -16,8 +21,14 @@ public class ActivityService {
 
     private final ActivityRepository repository;
 
-    @Cacheable(value = "activities", key = "T(java.util.Objects).hash(#groupBy, #pageable.pageNumber, #pageable.pageSize, #pageable.sort.toString())")
+    @Cacheable(value = CacheConfig.ACTIVITIES_CACHE, keyGenerator = ActivityCacheKeyGenerator.BEAN_NAME, sync = true)
+    @Transactional(readOnly = true)
     public Page<ActivityResponse> getAggregatedActivities(List<String> groupBy, Pageable pageable) {
         return repository.findAggregatedDynamic(groupBy, pageable);
     }
+
+    @Transactional(readOnly = true)
+    public DrillDownResponse getDrillDown(DrillDownRequest request) {
+        return repository.findDrillDown(request);
+    }
 }
@@ -0,0 +1,321 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.cache.ActivityCacheKeyGenerator;
+import com.bwromero.activity.aggregation.api.cache.TieredCache;
+import com.bwromero.activity.aggregation.api.config.CacheConfig;
+import com.bwromero.activity.aggregation.api.config.CacheWarmingProperties;
+import com.bwromero.activity.aggregation.api.datasource.ReplicaRoutingDataSource;
+import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.CacheWarmingReport;
+import com.bwromero.activity.aggregation.api.repository.ActivityRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most requested aggregation queries in the {@code activities} cache.
+ * <p>
+ * Queries are recorded under the same key {@link ActivityService} caches them with. After startup, after every data
+ * change and on a fixed interval, the hottest ones that are missing from the cache are recomputed on a single
+ * background thread that works through a priority queue (most requested first) and backs off while the connection
+ * pool serving its reads is busy with live traffic. Without an L2, entries warmed here are also refreshed shortly
+ * before their L1 TTL.
+ */
+@Service
+@Slf4j
+public class CacheWarmingService implements SchedulingConfigurer {
+
+    private static final List<List<String>> GROUPINGS = List.of(
+            List.of(),
+            List.of("project"),
+            List.of("employee"),
+            List.of("date"),
+            List.of("project", "employee"),
+            List.of("project", "date"),
+            List.of("employee", "date"),
+            List.of("project", "employee", "date"));
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 25);
+    private static final int MAX_TRACKED_QUERIES = 1000;
+    private static final int MAX_BACKOFF_ATTEMPTS = 10;
+
+    private final ActivityRepository repository;
+    private final CacheManager cacheManager;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final DataVersionService dataVersionService;
+    private final CacheWarmingProperties properties;
+    private final Duration l1ExpireAfterWrite;
+    private final Executor executor;
+
+    private final Map<String, HotQuery> queries = new ConcurrentHashMap<>();
+    private final Set<String> prewarmed = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> warmedAt = new ConcurrentHashMap<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder prewarmedHits = new LongAdder();
+    private volatile boolean ready;
+    private volatile Instant lastRunAt;
+
+    private record HotQuery(String key, List<String> groupBy, Pageable pageable, LongAdder hits) {}
+
+    public CacheWarmingService(ActivityRepository repository,
+                               CacheManager cacheManager,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                               DataVersionService dataVersionService,
+                               CacheWarmingProperties properties,
+                               @Value("${app.cache.l1.expire-after-write:5m}") Duration l1ExpireAfterWrite,
+                               @Qualifier(CacheConfig.CACHE_WARMER_EXECUTOR) Executor executor) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.dataSource = dataSource;
+        this.transactionManager = transactionManager;
+        this.replicaRouting = replicaRouting;
+        this.dataVersionService = dataVersionService;
+        this.properties = properties;
+        this.l1ExpireAfterWrite = l1ExpireAfterWrite;
+        this.executor = executor;
+    }
+
+    /**
+     * Records a user request. Must be called before the request reaches the cache,
+     * so that hits on pre-warmed entries can be told apart from entries filled by users.
+     */
+    public void recordRequest(List<String> groupBy, Pageable pageable) {
+        String key = ActivityCacheKeyGenerator.keyFor(groupBy, pageable);
+        requests.increment();
+
+        HotQuery query = queries.get(key);
+        if (query == null && queries.size() < MAX_TRACKED_QUERIES) {
+            query = queries.computeIfAbsent(key, k -> newHotQuery(k, groupBy, pageable));
+        }
+        if (query != null) {
+            query.hits().increment();
+        }
+
+        if (prewarmed.contains(key)) {
+            if (isCached(key)) {
+                prewarmedHits.increment();
+            } else {
+                prewarmed.remove(key);
+                warmedAt.remove(key);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        for (List<String> groupBy : GROUPINGS) {
+            String key = ActivityCacheKeyGenerator.keyFor(groupBy, FIRST_PAGE);
+            queries.computeIfAbsent(key, k -> newHotQuery(k, groupBy, FIRST_PAGE));
+        }
+        start("startup");
+    }
+
+    /**
+     * Allows warm-ups from now on; until then data changes only come from startup seeding.
+     */
+    void start(String reason) {
+        ready = true;
+        warmHotQueries(reason);
+    }
+
+    @EventListener
+    public void onDataVersionChanged(DataVersionChangedEvent event) {
+        prewarmed.clear();
+        warmedAt.clear();
+        warmHotQueries("data change");
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(
+                this::refreshBeforeExpiry, properties.interval(), properties.interval()));
+    }
+
+    public void refreshBeforeExpiry() {
+        warmHotQueries("scheduled refresh");
+    }
+
+    public void warmHotQueries(String reason) {
+        if (!properties.enabled() || !ready) {
+            return;
+        }
+        lastRunAt = Instant.now();
+        List<HotQuery> hottest = queries.values().stream()
+                .sorted(Comparator.comparingLong((HotQuery q) -> q.hits().sum()).reversed())
+                .limit(properties.topQueries())
+                .filter(query -> needsWarming(query.key()))
+                .toList();
+        log.debug("Warming {} queries ({})", hottest.size(), reason);
+
+        for (HotQuery query : hottest) {
+            if (queued.add(query.key())) {
+                executor.execute(new WarmTask(query, query.hits().sum()));
+            }
+        }
+    }
+
+    public CacheWarmingReport getReport() {
+        long volume = 0;
+        long warmedVolume = 0;
+        for (HotQuery query : queries.values()) {
+            long hits = query.hits().sum();
+            volume += hits;
+            if (prewarmed.contains(query.key())) {
+                warmedVolume += hits;
+            }
+        }
+        long totalRequests = requests.sum();
+        long totalPrewarmedHits = prewarmedHits.sum();
+        return new CacheWarmingReport(
+                queries.size(),
+                prewarmed.size(),
+                volume == 0 ? 0 : (double) warmedVolume / volume,
+                totalRequests,
+                totalPrewarmedHits,
+                totalRequests == 0 ? 0 : (double) totalPrewarmedHits / totalRequests,
+                lastRunAt);
+    }
+
+    private void warm(HotQuery query) {
+        try {
+            if (!needsWarming(query.key())) {
+                return;
+            }
+            if (!awaitPoolCapacity()) {
+                log.debug("Connection pool busy, skipping warm-up of {}", query.key());
+                return;
+            }
+            String version = dataVersionService.currentVersion();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Page<ActivityResponse> page = readOnly.execute(
+                    status -> repository.findAggregatedDynamic(query.groupBy(), query.pageable()));
+            if (!version.equals(dataVersionService.currentVersion())) {
+                log.debug("Data version changed while warming {}, discarding the result", query.key());
+                return;
+            }
+            cache().put(query.key(), page);
+            prewarmed.add(query.key());
+            warmedAt.put(query.key(), Instant.now());
+            Thread.sleep(properties.pause().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm {}", query.key(), e);
+        } finally {
+            queued.remove(query.key());
+        }
+    }
+
+    private boolean awaitPoolCapacity() throws InterruptedException {
+        long backoff = Math.max(properties.pause().toMillis(), 50);
+        for (int attempt = 1; attempt <= MAX_BACKOFF_ATTEMPTS; attempt++) {
+            if (poolUsage() < properties.maxPoolUsage()) {
+                return true;
+            }
+            Thread.sleep(backoff * attempt);
+        }
+        return false;
+    }
+
+    /**
+     * Warm-ups run in read-only transactions, so with replica routing they use the replica pools, not the primary.
+     */
+    private double poolUsage() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing != null) {
+            return routing.readPoolUsage();
+        }
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return 0;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? (double) pool.getActiveConnections() / hikari.getMaximumPoolSize() : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * A TieredCache keeps L2 entries for as long as the data version is current, so only missing entries are
+     * recomputed. A plain L1 entry warmed here is also recomputed when it would expire before the next run.
+     */
+    private boolean needsWarming(String key) {
+        if (!isCached(key)) {
+            return true;
+        }
+        if (cache() instanceof TieredCache) {
+            return false;
+        }
+        Instant warmed = warmedAt.get(key);
+        return warmed != null && warmed.plus(l1ExpireAfterWrite).minus(properties.interval()).isBefore(Instant.now());
+    }
+
+    /**
+     * Checks for an entry without deserializing it from L2 or promoting it to L1.
+     */
+    private boolean isCached(String key) {
+        Cache cache = cache();
+        return cache instanceof TieredCache tiered ? tiered.contains(key) : cache.get(key) != null;
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE));
+    }
+
+    private static HotQuery newHotQuery(String key, List<String> groupBy, Pageable pageable) {
+        List<String> groups = groupBy != null ? List.copyOf(groupBy) : List.of();
+        return new HotQuery(key, groups, pageable, new LongAdder());
+    }
+
+    private final class WarmTask implements Runnable, Comparable<WarmTask> {
+        private final HotQuery query;
+        private final long priority;
+
+        private WarmTask(HotQuery query, long priority) {
+            this.query = query;
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            warm(query);
+        }
+
+        @Override
+        public int compareTo(WarmTask other) {
+            return Long.compare(other.priority, priority);
+        }
+    }
+}
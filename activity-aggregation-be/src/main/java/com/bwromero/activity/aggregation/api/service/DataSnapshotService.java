@@ -0,0 +1,163 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.dto.SnapshotResponse;
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
+import com.bwromero.activity.aggregation.api.service.SnapshotFormat.ActivityRow;
+import com.bwromero.activity.aggregation.api.service.SnapshotFormat.NamedRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the dataset to a compact snapshot file and restores it through JDBC batch inserts,
+ * bypassing the JPA persistence context used by {@link DataSeedService}.
+ * Activities are exported in date order, so a restored table is physically clustered by date.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataSnapshotService {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersionService dataVersionService;
+
+    /**
+     * Runs as one repeatable-read snapshot, so the fingerprint in the header describes exactly the exported rows,
+     * even when the export is served by a replica.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SnapshotResponse exportSnapshot(Path file) throws IOException {
+        log.info("Exporting snapshot to {}...", file);
+        Fingerprint fingerprint = dataVersionService.compute();
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        // A temp file of its own per export, in the target directory so the final move stays on one file system
+        Path tempFile = Files.createTempFile(parent, file.getFileName() + ".", ".tmp");
+        List<NamedRow> projects;
+        List<NamedRow> employees;
+        long[] activities = {0};
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tempFile), 1 << 16)))) {
+                SnapshotFormat.writeHeader(out, fingerprint);
+                projects = queryNamedRows("project");
+                employees = queryNamedRows("employee");
+                SnapshotFormat.writeNamedRows(out, projects);
+                SnapshotFormat.writeNamedRows(out, employees);
+
+                jdbcTemplate.query(con -> {
+                    var statement = con.prepareStatement(
+                            "SELECT id, project_id, employee_id, date, hours FROM activity ORDER BY date, id");
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                }, rs -> {
+                    try {
+                        SnapshotFormat.writeActivity(out, new ActivityRow(
+                                rs.getLong("id"),
+                                rs.getLong("project_id"),
+                                rs.getLong("employee_id"),
+                                rs.getObject("date", OffsetDateTime.class),
+                                rs.getInt("hours")));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    activities[0]++;
+                });
+                SnapshotFormat.writeEnd(out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        log.info("Snapshot export complete: {} activities", activities[0]);
+        return new SnapshotResponse(file.toString(), projects.size(), employees.size(), activities[0], fingerprint.version());
+    }
+
+    /**
+     * Replaces the current dataset with the contents of the snapshot.
+     *
+     * @return the fingerprint recorded in the snapshot header
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public Fingerprint restoreSnapshot(Path file) throws IOException {
+        log.info("Restoring snapshot from {}...", file);
+        jdbcTemplate.execute("TRUNCATE TABLE activity, project, employee RESTART IDENTITY CASCADE");
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 1 << 16)))) {
+            Fingerprint expected = SnapshotFormat.readHeader(in);
+            insertNamedRows("project", SnapshotFormat.readNamedRows(in));
+            insertNamedRows("employee", SnapshotFormat.readNamedRows(in));
+
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            long total = 0;
+            for (ActivityRow row = SnapshotFormat.readActivity(in); row != null; row = SnapshotFormat.readActivity(in)) {
+                batch.add(new Object[]{row.id(), row.projectId(), row.employeeId(), row.date(), row.hours()});
+                if (batch.size() == BATCH_SIZE) {
+                    insertActivities(batch);
+                    total += batch.size();
+                    batch.clear();
+                    if (total % 50_000 == 0) log.info("Restored {} rows...", total);
+                }
+            }
+            insertActivities(batch);
+            total += batch.size();
+
+            for (String table : List.of("project", "employee", "activity")) {
+                resetIdentity(table);
+            }
+            log.info("Snapshot restore complete: {} activities", total);
+            return expected;
+        }
+    }
+
+    private List<NamedRow> queryNamedRows(String table) {
+        return jdbcTemplate.query("SELECT id, name FROM " + table + " ORDER BY id",
+                (rs, i) -> new NamedRow(rs.getLong("id"), rs.getString("name")));
+    }
+
+    private void insertNamedRows(String table, List<NamedRow> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, name) VALUES (?, ?)",
+                rows.stream().map(row -> new Object[]{row.id(), row.name()}).toList());
+    }
+
+    private void insertActivities(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO activity (id, project_id, employee_id, date, hours) VALUES (?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private void resetIdentity(String table) {
+        jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                + "COALESCE(MAX(id), 0) + 1, false) FROM " + table);
+    }
+
+    /**
+     * Refreshes planner statistics and the visibility map after a bulk load, so query plans reflect the loaded rows.
+     * Must run outside of a transaction.
+     */
+    public void vacuumAnalyze() {
+        jdbcTemplate.execute("VACUUM (ANALYZE) activity");
+    }
+}
@@ -0,0 +1,8 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
+
+/**
+ * Published by {@link DataVersionService} whenever the activity dataset fingerprint changes.
+ */
+public record DataVersionChangedEvent(Fingerprint previous, Fingerprint current) {}
@@ -0,0 +1,163 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.datasource.ReplicaRoutingDataSource;
+import com.bwromero.activity.aggregation.api.model.QActivity;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks a fingerprint of the activity dataset, including the project and employee names shown next to it.
+ * The fingerprint is used as the data version for anything that must not outlive the data it was computed from,
+ * such as persisted cache entries. Besides the explicit refreshes after seeding, it is recomputed on a fixed
+ * interval, so writes made while the application runs move the version too.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataVersionService {
+
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final AtomicReference<Fingerprint> current = new AtomicReference<>();
+    private volatile boolean ready;
+
+    public record Fingerprint(long rowCount, long checksum) {
+        public String version() {
+            return rowCount + "-" + Long.toHexString(checksum);
+        }
+    }
+
+    public Fingerprint current() {
+        Fingerprint fingerprint = current.get();
+        return fingerprint != null ? fingerprint : refresh();
+    }
+
+    public String currentVersion() {
+        return current().version();
+    }
+
+    /**
+     * Recomputes the fingerprint on the primary, in a transaction of its own. Must be called after every bulk change
+     * of the activity table. Publishes a {@link DataVersionChangedEvent} when the fingerprint differs from the
+     * previous one.
+     * <p>
+     * Before a new version becomes current, replicas are taken out of rotation until they have replayed the primary's
+     * WAL position, so rows read from a lagging replica are never cached under the new version.
+     */
+    public Fingerprint refresh() {
+        TransactionTemplate onPrimary = new TransactionTemplate(transactionManager);
+        onPrimary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Fingerprint fingerprint = onPrimary.execute(status -> compute());
+        Fingerprint previous = current.get();
+        boolean changed = !fingerprint.equals(previous);
+        if (changed) {
+            replicaRouting.ifAvailable(ReplicaRoutingDataSource::fenceAtPrimaryPosition);
+        }
+        current.set(fingerprint);
+        if (changed) {
+            log.info("Data version is now {}", fingerprint.version());
+            eventPublisher.publishEvent(new DataVersionChangedEvent(previous, fingerprint));
+        }
+        return fingerprint;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ready = true;
+    }
+
+    /**
+     * Picks up changes made outside of seeding: ingestion, a restore by another instance, manual fixes.
+     * Waits until startup seeding is done, so half-seeded data never becomes a version.
+     */
+    @Scheduled(fixedDelayString = "${app.data-version.check-interval:PT1M}",
+            initialDelayString = "${app.data-version.check-interval:PT1M}")
+    public void checkForChanges() {
+        if (ready) {
+            refresh();
+        }
+    }
+
+    /**
+     * Returns the fingerprint recorded after the last seeding or restore, if any.
+     */
+    public Optional<Fingerprint> recordedFingerprint() {
+        return jdbcTemplate.query("SELECT row_count, checksum FROM seed_fingerprint WHERE id = 1",
+                        (rs, rowNum) -> new Fingerprint(rs.getLong("row_count"), rs.getLong("checksum")))
+                .stream()
+                .findFirst();
+    }
+
+    public void recordFingerprint(Fingerprint fingerprint) {
+        jdbcTemplate.update("""
+                INSERT INTO seed_fingerprint (id, row_count, checksum, recorded_at) VALUES (1, ?, ?, now())
+                ON CONFLICT (id) DO UPDATE
+                SET row_count = EXCLUDED.row_count, checksum = EXCLUDED.checksum, recorded_at = EXCLUDED.recorded_at""",
+                fingerprint.rowCount(), fingerprint.checksum());
+    }
+
+    /**
+     * Computes the fingerprint in the caller's transaction, without changing the current version.
+     */
+    public Fingerprint compute() {
+        QActivity activity = QActivity.activity;
+        Tuple row = new JPAQueryFactory(entityManager)
+                .select(activity.count(),
+                        activity.id.max(),
+                        activity.hours.sum(),
+                        activity.id.mod(9973L).add(activity.project.id).add(activity.employee.id).multiply(activity.hours).sum(),
+                        activity.date.min(),
+                        activity.date.max())
+                .from(activity)
+                .fetchOne();
+
+        if (row == null) {
+            return new Fingerprint(0, 0);
+        }
+
+        long rowCount = valueOf(row.get(0, Number.class));
+        long checksum = rowCount;
+        checksum = 31 * checksum + valueOf(row.get(1, Number.class));
+        checksum = 31 * checksum + valueOf(row.get(2, Number.class));
+        checksum = 31 * checksum + valueOf(row.get(3, Number.class));
+        checksum = 31 * checksum + epochMillis(row.get(4, ZonedDateTime.class));
+        checksum = 31 * checksum + epochMillis(row.get(5, ZonedDateTime.class));
+        checksum = 31 * checksum + namesChecksum("project");
+        checksum = 31 * checksum + namesChecksum("employee");
+        return new Fingerprint(rowCount, checksum);
+    }
+
+    private long namesChecksum(String table) {
+        Long checksum = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(hashtext(id || ':' || COALESCE(name, ''))), 0) FROM " + table, Long.class);
+        return checksum != null ? checksum : 0L;
+    }
+
+    private static long valueOf(Number number) {
+        return number != null ? number.longValue() : 0L;
+    }
+
+    private static long epochMillis(ZonedDateTime dateTime) {
+        return Optional.ofNullable(dateTime).map(d -> d.toInstant().toEpochMilli()).orElse(0L);
+    }
+}
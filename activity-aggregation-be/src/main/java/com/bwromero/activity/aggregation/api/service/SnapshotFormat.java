@@ -0,0 +1,107 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
+import lombok.experimental.UtilityClass;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary layout of dataset snapshots (the stream is gzip-compressed by the caller):
+ * <pre>
+ * header     magic, format version, fingerprint of the exported data
+ * projects   count, then (id, name present, name if present) per row
+ * employees  count, then (id, name present, name if present) per row
+ * activities (1, id, project id, employee id, epoch second, nano, offset seconds, hours) per row, terminated by 0
+ * </pre>
+ * Activities are written row by row so that exports and restores can stream without holding the dataset in memory.
+ */
+@UtilityClass
+public class SnapshotFormat {
+
+    private static final int MAGIC = 0x4141534E;
+    private static final int FORMAT_VERSION = 2;
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+
+    public record NamedRow(long id, String name) {}
+
+    public record ActivityRow(long id, long projectId, long employeeId, OffsetDateTime date, int hours) {}
+
+    public static void writeHeader(DataOutputStream out, Fingerprint fingerprint) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(fingerprint.rowCount());
+        out.writeLong(fingerprint.checksum());
+    }
+
+    public static Fingerprint readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an activity snapshot");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version + " (expected " + FORMAT_VERSION
+                    + "), export a new snapshot");
+        }
+        return new Fingerprint(in.readLong(), in.readLong());
+    }
+
+    public static void writeNamedRows(DataOutputStream out, List<NamedRow> rows) throws IOException {
+        out.writeInt(rows.size());
+        for (NamedRow row : rows) {
+            out.writeLong(row.id());
+            out.writeBoolean(row.name() != null);
+            if (row.name() != null) {
+                out.writeUTF(row.name());
+            }
+        }
+    }
+
+    public static List<NamedRow> readNamedRows(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<NamedRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            rows.add(new NamedRow(id, in.readBoolean() ? in.readUTF() : null));
+        }
+        return rows;
+    }
+
+    public static void writeActivity(DataOutputStream out, ActivityRow row) throws IOException {
+        Instant instant = row.date().toInstant();
+        out.writeByte(ROW);
+        out.writeLong(row.id());
+        out.writeLong(row.projectId());
+        out.writeLong(row.employeeId());
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+        out.writeInt(row.date().getOffset().getTotalSeconds());
+        out.writeInt(row.hours());
+    }
+
+    public static void writeEnd(DataOutputStream out) throws IOException {
+        out.writeByte(END);
+    }
+
+    /**
+     * @return the next activity, or {@code null} once the end marker is reached
+     */
+    public static ActivityRow readActivity(DataInputStream in) throws IOException {
+        if (in.readByte() == END) {
+            return null;
+        }
+        long id = in.readLong();
+        long projectId = in.readLong();
+        long employeeId = in.readLong();
+        Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(in.readInt());
+        return new ActivityRow(id, projectId, employeeId, OffsetDateTime.ofInstant(instant, offset), in.readInt());
+    }
+}
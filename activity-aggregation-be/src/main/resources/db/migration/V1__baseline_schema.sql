@@ -0,0 +1,23 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Databases created before Flyway have no history table; they are baselined at version 0
+-- (spring.flyway.baseline-on-migrate), so this script still runs on them and IF NOT EXISTS skips what Hibernate created.
+
+CREATE TABLE IF NOT EXISTS project (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS employee (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS activity (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date        TIMESTAMP(6) WITH TIME ZONE,
+    hours       INTEGER,
+    employee_id BIGINT REFERENCES employee (id),
+    project_id  BIGINT REFERENCES project (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_activity_agg ON activity (project_id, employee_id, date);
@@ -0,0 +1,9 @@
+-- Fingerprint of the activity dataset, recorded by DataInitializer after seeding or restoring.
+-- Lives next to the data, so a fresh application host sees the same fingerprint as the previous one.
+
+CREATE TABLE seed_fingerprint (
+    id          SMALLINT PRIMARY KEY CHECK (id = 1),
+    row_count   BIGINT                      NOT NULL,
+    checksum    BIGINT                      NOT NULL,
+    recorded_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
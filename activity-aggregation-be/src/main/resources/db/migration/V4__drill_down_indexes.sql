@@ -0,0 +1,18 @@
+-- Indexes for the keyset drill-down of ActivityRepositoryImpl.findDrillDown, which filters on the group keys of a
+-- clicked row and returns its activities ordered by (date, id).
+-- idx_activity_agg leads with (project_id, employee_id), so for a project-only filter it cannot return rows in date
+-- order: every activity of the project would be sorted before LIMIT applies. These indexes end in (date, id), so a
+-- page is read in keyset order and the scan stops after size + 1 rows:
+--   project            -> idx_activity_project_date
+--   employee           -> idx_activity_employee_date
+--   date               -> idx_activity_date_id (the one-day range and the order come from the same index)
+--   project+employee   -> idx_activity_agg, followed by an incremental sort on id within equal dates
+-- Names resolve to a single id in practice; when a name matches several ids, the matching rows are sorted instead.
+
+CREATE INDEX IF NOT EXISTS idx_activity_project_date ON activity (project_id, date, id);
+
+CREATE INDEX IF NOT EXISTS idx_activity_employee_date ON activity (employee_id, date, id);
+
+CREATE INDEX IF NOT EXISTS idx_activity_date_id ON activity (date, id);
+
+ANALYZE activity;
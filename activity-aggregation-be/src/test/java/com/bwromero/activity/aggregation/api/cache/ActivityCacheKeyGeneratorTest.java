@@ -0,0 +1,40 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityCacheKeyGeneratorTest {
+
+    @Test
+    void keyFor_shouldNormalizeGroupNames() {
+        String key = ActivityCacheKeyGenerator.keyFor(List.of("Project", "project", "DATE"), PageRequest.of(0, 25));
+
+        assertEquals(ActivityCacheKeyGenerator.keyFor(List.of("project", "date"), PageRequest.of(0, 25)), key);
+    }
+
+    @Test
+    void keyFor_shouldKeepGroupOrderAndSort() {
+        PageRequest page = PageRequest.of(0, 25);
+
+        assertNotEquals(
+                ActivityCacheKeyGenerator.keyFor(List.of("project", "employee"), page),
+                ActivityCacheKeyGenerator.keyFor(List.of("employee", "project"), page));
+        assertNotEquals(
+                ActivityCacheKeyGenerator.keyFor(List.of("project"), page),
+                ActivityCacheKeyGenerator.keyFor(List.of("project"), page.withSort(Sort.by("hours"))));
+    }
+
+    @Test
+    void generate_shouldMatchKeyFor() {
+        PageRequest page = PageRequest.of(2, 10);
+
+        Object key = new ActivityCacheKeyGenerator().generate(null, null, null, page);
+
+        assertEquals(ActivityCacheKeyGenerator.keyFor(List.of(), page), key);
+    }
+}
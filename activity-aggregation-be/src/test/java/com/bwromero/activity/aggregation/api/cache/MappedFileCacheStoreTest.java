@@ -0,0 +1,81 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileCacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void put_shouldBeReadableAfterReopen() throws Exception {
+        Path file = tempDir.resolve("store.l2");
+        try (MappedFileCacheStore store = new MappedFileCacheStore(file, 4096)) {
+            store.put("a", bytes("first"));
+            store.put("b", bytes("second"));
+            store.put("a", bytes("updated"));
+            store.remove("b");
+        }
+
+        try (MappedFileCacheStore store = new MappedFileCacheStore(file, 4096)) {
+            assertEquals(1, store.size());
+            assertEquals("updated", text(store.get("a").orElseThrow()));
+            assertTrue(store.get("b").isEmpty());
+        }
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedWhenFull() throws Exception {
+        try (MappedFileCacheStore store = new MappedFileCacheStore(tempDir.resolve("store.l2"), 256)) {
+            store.put("a", new byte[60]);
+            store.put("b", new byte[60]);
+            store.put("c", new byte[60]);
+            store.get("a");
+
+            store.put("d", new byte[60]);
+
+            assertTrue(store.get("a").isPresent());
+            assertTrue(store.get("b").isEmpty());
+            assertTrue(store.get("d").isPresent());
+            assertTrue(store.usedBytes() <= 256);
+        }
+    }
+
+    @Test
+    void put_shouldSkipValuesLargerThanTheStore() throws Exception {
+        try (MappedFileCacheStore store = new MappedFileCacheStore(tempDir.resolve("store.l2"), 128)) {
+            store.put("big", new byte[512]);
+
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void contains_shouldNotRefreshLeastRecentlyUsedOrder() throws Exception {
+        try (MappedFileCacheStore store = new MappedFileCacheStore(tempDir.resolve("store.l2"), 256)) {
+            store.put("a", new byte[60]);
+            store.put("b", new byte[60]);
+            store.put("c", new byte[60]);
+
+            assertTrue(store.contains("a"));
+            store.put("d", new byte[60]);
+
+            assertFalse(store.contains("a"));
+            assertTrue(store.contains("b"));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
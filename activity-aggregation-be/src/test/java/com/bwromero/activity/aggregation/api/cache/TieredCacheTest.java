@@ -0,0 +1,89 @@
+package com.bwromero.activity.aggregation.api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicReference<String> version = new AtomicReference<>("v1");
+
+    @Test
+    void get_shouldNotServeEntriesOfAPreviousDataVersion() throws Exception {
+        ConcurrentMapCache l1 = new ConcurrentMapCache("activities");
+        try (MappedFileCacheStore l2 = new MappedFileCacheStore(tempDir.resolve("activities.l2"), 64 * 1024)) {
+            TieredCache cache = new TieredCache(l1, l2, version::get);
+            cache.put("key", new ArrayList<>(List.of("old")));
+
+            version.set("v2");
+            Cache.ValueWrapper afterSwitch = cache.get("key");
+
+            assertNull(afterSwitch);
+            assertNull(l1.get("key"));
+        }
+    }
+
+    @Test
+    void get_shouldServeTheSameVersionFromL2AfterReopen() throws Exception {
+        Path file = tempDir.resolve("activities.l2");
+        try (MappedFileCacheStore l2 = new MappedFileCacheStore(file, 64 * 1024)) {
+            new TieredCache(new ConcurrentMapCache("activities"), l2, version::get)
+                    .put("key", new ArrayList<>(List.of("row")));
+        }
+
+        try (MappedFileCacheStore l2 = new MappedFileCacheStore(file, 64 * 1024)) {
+            ConcurrentMapCache l1 = new ConcurrentMapCache("activities");
+            TieredCache cache = new TieredCache(l1, l2, version::get);
+            Cache.ValueWrapper sameVersion = cache.get("key");
+            version.set("v2");
+            Cache.ValueWrapper otherVersion = cache.get("key");
+
+            assertNotNull(sameVersion);
+            assertEquals(List.of("row"), sameVersion.get());
+            assertNull(otherVersion);
+        }
+    }
+
+    @Test
+    void get_shouldLoadAMissingValueOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        try (MappedFileCacheStore l2 = new MappedFileCacheStore(tempDir.resolve("activities.l2"), 64 * 1024)) {
+            TieredCache cache = new TieredCache(new ConcurrentMapCache("activities"), l2, version::get);
+
+            String first = cache.get("key", () -> "loaded-" + loads.incrementAndGet());
+            String second = cache.get("key", () -> "loaded-" + loads.incrementAndGet());
+
+            assertEquals("loaded-1", first);
+            assertEquals("loaded-1", second);
+            assertEquals(1, loads.get());
+        }
+    }
+
+    @Test
+    void get_shouldNotCacheValuesLoadedWhileTheDataVersionChanged() throws Exception {
+        try (MappedFileCacheStore l2 = new MappedFileCacheStore(tempDir.resolve("activities.l2"), 64 * 1024)) {
+            TieredCache cache = new TieredCache(new ConcurrentMapCache("activities"), l2, version::get);
+
+            String loaded = cache.get("key", () -> {
+                version.set("v2");
+                return "read-before-the-change";
+            });
+
+            assertEquals("read-before-the-change", loaded);
+            assertNull(cache.get("key"));
+            assertEquals(0, l2.size());
+        }
+    }
+}
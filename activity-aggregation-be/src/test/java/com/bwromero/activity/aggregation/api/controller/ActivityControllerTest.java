@@ -1,7 +1,10 @@
 package com.bwromero.activity.aggregation.api.controller;
 
 import com.bwromero.activity.aggregation.api.dto.ActivityResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
 import com.bwromero.activity.aggregation.api.service.ActivityService;
+import com.bwromero.activity.aggregation.api.service.CacheWarmingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -11,10 +14,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +30,9 @@ class ActivityControllerTest {
     @Mock
     private ActivityService service;
 
+    @Mock
+    private CacheWarmingService cacheWarmingService;
+
     @InjectMocks
     private ActivityController controller;
 
@@ -41,5 +51,32 @@ class ActivityControllerTest {
         // Assert
         assertEquals(expectedPage, result);
         verify(service, times(1)).getAggregatedActivities(groupBy, pageable);
+        verify(cacheWarmingService).recordRequest(groupBy, pageable);
+    }
+
+    @Test
+    void getDrillDown_shouldCallServiceWithClampedSize() {
+        // Arrange
+        LocalDate date = LocalDate.of(2026, 3, 4);
+        DrillDownRequest expectedRequest = new DrillDownRequest("Project 07", "Employee 12", date, null, null, 500);
+        DrillDownResponse expectedResponse = new DrillDownResponse(List.of(), false, null, null);
+
+        when(service.getDrillDown(expectedRequest)).thenReturn(expectedResponse);
+
+        // Act
+        DrillDownResponse result = controller.getDrillDown("Project 07", "Employee 12", date, null, null, 10_000);
+
+        // Assert
+        assertEquals(expectedResponse, result);
+        verify(service, times(1)).getDrillDown(expectedRequest);
+    }
+
+    @Test
+    void getDrillDown_shouldRejectIncompleteCursor() {
+        ZonedDateTime afterDate = ZonedDateTime.parse("2026-03-04T10:00:00Z");
+
+        assertThrows(ResponseStatusException.class,
+                () -> controller.getDrillDown(null, null, null, afterDate, null, 50));
+        verifyNoInteractions(service);
     }
 }
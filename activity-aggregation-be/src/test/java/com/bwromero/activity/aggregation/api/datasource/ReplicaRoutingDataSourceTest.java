@@ -0,0 +1,127 @@
+package com.bwromero.activity.aggregation.api.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaA;
+
+    @Mock
+    private DataSource replicaB;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection connectionA;
+
+    @Mock
+    private Connection connectionB;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(
+                new DataSourcePool("primary", primary),
+                List.of(new DataSourcePool("a", replicaA), new DataSourcePool("b", replicaB)),
+                ReplicaSelectionStrategy.ROUND_ROBIN);
+    }
+
+    @Test
+    void getConnection_shouldAlternateBetweenReplicas() throws SQLException {
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+
+        assertSame(connectionA, routing.getConnection());
+        assertSame(connectionB, routing.getConnection());
+        assertSame(connectionA, routing.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void checkReplicas_shouldTakeLaggingReplicaOutOfRotation() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet lag = mock(ResultSet.class);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        when(connectionA.prepareStatement(anyString())).thenReturn(statement);
+        when(connectionB.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenReturn(30.0, 0.0);
+        when(lag.getBoolean(2)).thenReturn(true);
+
+        routing.checkReplicas(Duration.ofSeconds(10));
+
+        assertSame(connectionB, routing.getConnection());
+        assertSame(connectionB, routing.getConnection());
+        assertFalse(routing.getStats().get(1).healthy());
+        assertEquals(30.0, routing.getStats().get(1).lagSeconds());
+    }
+
+    @Test
+    void getConnection_shouldFallBackToPrimaryWhenNoReplicaIsAvailable() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("down"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replicaA, times(1)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+        assertEquals(3, routing.getStats().get(0).routedReads());
+    }
+
+    @Test
+    void fenceAtPrimaryPosition_shouldKeepReadsOnPrimaryUntilReplicasCatchUp() throws SQLException {
+        Statement primaryStatement = mock(Statement.class);
+        ResultSet primaryLsn = mock(ResultSet.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet lag = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primaryConnection.createStatement()).thenReturn(primaryStatement);
+        when(primaryStatement.executeQuery(anyString())).thenReturn(primaryLsn);
+        when(primaryLsn.next()).thenReturn(true);
+        when(primaryLsn.getString(1)).thenReturn("0/3000060");
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        when(connectionA.prepareStatement(anyString())).thenReturn(statement);
+        when(connectionB.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+        when(lag.getBoolean(2)).thenReturn(false, true);
+
+        routing.fenceAtPrimaryPosition();
+        Connection duringFence = routing.getConnection();
+        routing.checkReplicas(Duration.ofSeconds(10));
+
+        assertSame(primaryConnection, duringFence);
+        verify(statement, times(2)).setString(1, "0/3000060");
+        assertSame(connectionB, routing.getConnection());
+        assertSame(connectionB, routing.getConnection());
+    }
+}
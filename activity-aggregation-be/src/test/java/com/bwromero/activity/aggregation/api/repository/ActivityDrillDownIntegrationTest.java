@@ -0,0 +1,121 @@
+package com.bwromero.activity.aggregation.api.repository;
+
+import com.bwromero.activity.aggregation.api.dto.ActivityDetailResponse;
+import com.bwromero.activity.aggregation.api.dto.DrillDownRequest;
+import com.bwromero.activity.aggregation.api.dto.DrillDownResponse;
+import com.bwromero.activity.aggregation.api.model.Activity;
+import com.bwromero.activity.aggregation.api.model.Employee;
+import com.bwromero.activity.aggregation.api.model.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional // Rolls back the project, employee and activities created for each test
+class ActivityDrillDownIntegrationTest {
+
+    private static final ZonedDateTime DAY_ONE = ZonedDateTime.of(2024, 3, 4, 9, 0, 0, 0, ZoneId.systemDefault());
+    private static final ZonedDateTime DAY_TWO = DAY_ONE.plusDays(1);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private String projectName;
+    private List<Activity> expected;
+
+    @BeforeEach
+    void setUp() {
+        projectName = "Drill-down " + UUID.randomUUID();
+        Project project = projectRepository.save(new Project(null, projectName));
+        Employee employee = employeeRepository.save(new Employee(null, "Drill-down " + UUID.randomUUID()));
+
+        // Inserted out of order, with several rows sharing a date so the id tiebreak decides the order
+        List<Activity> activities = new ArrayList<>();
+        for (ZonedDateTime date : List.of(DAY_TWO, DAY_ONE, DAY_TWO, DAY_ONE, DAY_TWO)) {
+            activities.add(activityRepository.save(Activity.builder()
+                    .project(project)
+                    .employee(employee)
+                    .date(date)
+                    .hours(1)
+                    .build()));
+        }
+        expected = activities.stream()
+                .sorted(Comparator.comparing((Activity a) -> a.getDate().toInstant()).thenComparing(Activity::getId))
+                .toList();
+    }
+
+    @Test
+    void findDrillDown_shouldReturnTheFirstPageOrderedByDateThenId() {
+        // Act
+        DrillDownResponse page = activityRepository.findDrillDown(
+                new DrillDownRequest(projectName, null, null, null, null, 2));
+
+        // Assert
+        assertThat(page.content()).extracting(ActivityDetailResponse::id)
+                .containsExactly(expected.get(0).getId(), expected.get(1).getId());
+        assertThat(page.content()).allSatisfy(row -> assertThat(row.project()).isEqualTo(projectName));
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.nextAfterId()).isEqualTo(expected.get(1).getId());
+        assertThat(page.nextAfterDate().toInstant()).isEqualTo(expected.get(1).getDate().toInstant());
+    }
+
+    @Test
+    void findDrillDown_shouldContinueFromTheCursorWithoutGapsOrDuplicates() {
+        // Arrange
+        List<Long> seen = new ArrayList<>();
+        List<Boolean> hasNext = new ArrayList<>();
+        ZonedDateTime afterDate = null;
+        Long afterId = null;
+
+        // Act
+        do {
+            DrillDownResponse page = activityRepository.findDrillDown(
+                    new DrillDownRequest(projectName, null, null, afterDate, afterId, 2));
+            page.content().forEach(row -> seen.add(row.id()));
+            hasNext.add(page.hasNext());
+            afterDate = page.nextAfterDate();
+            afterId = page.nextAfterId();
+        } while (hasNext.getLast() && hasNext.size() < 10);
+
+        // Assert
+        assertThat(seen).containsExactlyElementsOf(expected.stream().map(Activity::getId).toList());
+        assertThat(hasNext).containsExactly(true, true, false);
+    }
+
+    @Test
+    void findDrillDown_shouldKeepTheDateFilterAcrossPages() {
+        // Arrange
+        List<Long> dayTwo = expected.stream()
+                .filter(a -> a.getDate().equals(DAY_TWO))
+                .map(Activity::getId)
+                .toList();
+        DrillDownResponse first = activityRepository.findDrillDown(
+                new DrillDownRequest(projectName, null, DAY_TWO.toLocalDate(), null, null, 2));
+
+        // Act
+        DrillDownResponse second = activityRepository.findDrillDown(new DrillDownRequest(
+                projectName, null, DAY_TWO.toLocalDate(), first.nextAfterDate(), first.nextAfterId(), 2));
+
+        // Assert
+        assertThat(first.content()).extracting(ActivityDetailResponse::id).containsExactlyElementsOf(dayTwo.subList(0, 2));
+        assertThat(second.content()).extracting(ActivityDetailResponse::id).containsExactlyElementsOf(dayTwo.subList(2, 3));
+        assertThat(second.hasNext()).isFalse();
+    }
+}
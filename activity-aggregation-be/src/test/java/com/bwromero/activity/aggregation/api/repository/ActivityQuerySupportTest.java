@@ -2,10 +2,14 @@ package com.bwromero.activity.aggregation.api.repository;
 
 import com.bwromero.activity.aggregation.api.model.QActivity;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.Expressions;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,4 +53,22 @@ class ActivityQuerySupportTest {
         assertTrue(result.contains("project"));
         assertTrue(result.contains("employee"));
     }
+
+    @Test
+    void createDrillDownFilter_shouldOnlyFilterProvidedKeys() {
+        Predicate result = ActivityQuerySupport.createDrillDownFilter(activity, List.of(7L), null,
+                LocalDate.of(2026, 3, 4), ZoneOffset.UTC);
+
+        String filter = result.toString();
+        assertTrue(filter.contains("activity.project.id"));
+        assertFalse(filter.contains("activity.employee"));
+        assertTrue(filter.contains("activity.date >= 2026-03-04T00:00Z"));
+        assertTrue(filter.contains("activity.date < 2026-03-05T00:00Z"));
+    }
+
+    @Test
+    void keysetAfter_shouldBeAbsentForFirstPage() {
+        assertNull(ActivityQuerySupport.keysetAfter(activity, null, null));
+        assertNotNull(ActivityQuerySupport.keysetAfter(activity, ZonedDateTime.parse("2026-03-04T10:00:00Z"), 42L));
+    }
 }
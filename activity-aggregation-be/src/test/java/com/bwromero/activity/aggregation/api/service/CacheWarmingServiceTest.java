@@ -0,0 +1,254 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.cache.ActivityCacheKeyGenerator;
+import com.bwromero.activity.aggregation.api.config.CacheConfig;
+import com.bwromero.activity.aggregation.api.config.CacheWarmingProperties;
+import com.bwromero.activity.aggregation.api.datasource.ReplicaRoutingDataSource;
+import com.bwromero.activity.aggregation.api.dto.CacheWarmingReport;
+import com.bwromero.activity.aggregation.api.repository.ActivityRepository;
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmingServiceTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+    private static final List<String> BY_PROJECT = List.of("project");
+    private static final List<String> BY_EMPLOYEE = List.of("employee");
+    private static final List<String> BY_DATE = List.of("date");
+
+    @Mock
+    private ActivityRepository repository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ACTIVITIES_CACHE);
+    private final List<Runnable> submitted = new ArrayList<>();
+    private CacheWarmingService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dataVersionService.currentVersion()).thenReturn("v1");
+        service = newService(2, 1.0);
+        service.start("test");
+    }
+
+    @Test
+    void warmHotQueries_shouldQueueTheMostRequestedQueriesOnce() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        request(BY_PROJECT, 3);
+        request(BY_EMPLOYEE, 2);
+        request(BY_DATE, 1);
+
+        // Act
+        service.warmHotQueries("test");
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Assert
+        verify(repository).findAggregatedDynamic(BY_PROJECT, PAGE);
+        verify(repository).findAggregatedDynamic(BY_EMPLOYEE, PAGE);
+        verify(repository, never()).findAggregatedDynamic(BY_DATE, PAGE);
+    }
+
+    @Test
+    void warmHotQueries_shouldSkipQueriesThatAreStillCached() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        request(BY_PROJECT, 2);
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Act
+        service.warmHotQueries("test");
+
+        // Assert
+        assertEquals(0, submitted.size());
+        verify(repository, times(1)).findAggregatedDynamic(BY_PROJECT, PAGE);
+    }
+
+    @Test
+    void recordRequest_shouldCountHitsOnPrewarmedEntries() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        request(BY_PROJECT, 1);
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Act
+        request(BY_PROJECT, 2);
+
+        // Assert
+        CacheWarmingReport report = service.getReport();
+        assertEquals(3, report.requests());
+        assertEquals(2, report.prewarmedHits());
+        assertEquals(1, report.warmedQueries());
+    }
+
+    @Test
+    void recordRequest_shouldForgetPrewarmedEntriesThatLeftTheCache() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        request(BY_PROJECT, 1);
+        service.warmHotQueries("test");
+        runSubmitted();
+        cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).evict(ActivityCacheKeyGenerator.keyFor(BY_PROJECT, PAGE));
+
+        // Act
+        request(BY_PROJECT, 1);
+
+        // Assert
+        CacheWarmingReport report = service.getReport();
+        assertEquals(0, report.prewarmedHits());
+        assertEquals(0, report.warmedQueries());
+    }
+
+    @Test
+    void getReport_shouldWeighCoverageByRequestVolume() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        service = newService(1, 1.0);
+        service.start("test");
+        request(BY_PROJECT, 3);
+        request(BY_EMPLOYEE, 1);
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Act
+        request(BY_PROJECT, 1);
+        CacheWarmingReport report = service.getReport();
+
+        // Assert
+        assertEquals(2, report.trackedQueries());
+        assertEquals(1, report.warmedQueries());
+        assertEquals(0.8, report.warmCoverage(), 1e-9);
+        assertEquals(5, report.requests());
+        assertEquals(1, report.prewarmedHits());
+        assertEquals(0.2, report.prewarmedHitRatio(), 1e-9);
+    }
+
+    @Test
+    void warm_shouldThrottleOnTheReplicaPoolsWhenReadsAreRouted() throws Exception {
+        // Arrange
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(replicaRouting.getIfAvailable()).thenReturn(routing);
+        when(routing.readPoolUsage()).thenReturn(0.2);
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        service = newService(2, 0.5);
+        service.start("test");
+        request(BY_PROJECT, 1);
+
+        // Act
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Assert
+        verify(routing).readPoolUsage();
+        verify(dataSource, never()).isWrapperFor(any());
+        verify(repository).findAggregatedDynamic(BY_PROJECT, PAGE);
+    }
+
+    @Test
+    void warm_shouldDiscardResultsLoadedWhileTheDataVersionChanged() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), eq(PAGE))).thenReturn(new PageImpl<>(List.of()));
+        when(dataVersionService.currentVersion()).thenReturn("v1", "v2");
+        request(BY_PROJECT, 1);
+
+        // Act
+        service.warmHotQueries("test");
+        runSubmitted();
+
+        // Assert
+        assertEquals(0, service.getReport().warmedQueries());
+        assertNull(cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).get(ActivityCacheKeyGenerator.keyFor(BY_PROJECT, PAGE)));
+    }
+
+    @Test
+    void onDataVersionChanged_shouldIgnoreChangesBeforeStartup() {
+        // Arrange
+        service = newService(2, 1.0);
+        request(BY_PROJECT, 1);
+
+        // Act
+        service.onDataVersionChanged(new DataVersionChangedEvent(null, new Fingerprint(1, 1)));
+
+        // Assert
+        assertEquals(0, submitted.size());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void onDataVersionChanged_shouldQueueWarmUpsAfterStartup() {
+        // Arrange
+        when(repository.findAggregatedDynamic(any(), any())).thenReturn(new PageImpl<>(List.of()));
+        service = newService(2, 1.0);
+        request(BY_PROJECT, 3);
+        request(BY_EMPLOYEE, 2);
+        service.onStartup();
+        runSubmitted();
+        cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).clear();
+
+        // Act
+        service.onDataVersionChanged(new DataVersionChangedEvent(new Fingerprint(1, 1), new Fingerprint(2, 2)));
+
+        // Assert
+        assertEquals(2, submitted.size());
+        runSubmitted();
+        verify(repository, times(2)).findAggregatedDynamic(BY_PROJECT, PAGE);
+        verify(repository, times(2)).findAggregatedDynamic(BY_EMPLOYEE, PAGE);
+        assertEquals(2, service.getReport().warmedQueries());
+    }
+
+    private CacheWarmingService newService(int topQueries, double maxPoolUsage) {
+        CacheWarmingProperties properties =
+                new CacheWarmingProperties(true, topQueries, Duration.ofMinutes(4), Duration.ZERO, maxPoolUsage);
+        return new CacheWarmingService(repository, cacheManager, dataSource, transactionManager, replicaRouting,
+                dataVersionService, properties, Duration.ofMinutes(5), submitted::add);
+    }
+
+    private void request(List<String> groupBy, int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordRequest(groupBy, PAGE);
+        }
+    }
+
+    private void runSubmitted() {
+        List<Runnable> tasks = new ArrayList<>(submitted);
+        submitted.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bwromero.activity.aggregation.api.service;
+
+import com.bwromero.activity.aggregation.api.service.DataVersionService.Fingerprint;
+import com.bwromero.activity.aggregation.api.service.SnapshotFormat.ActivityRow;
+import com.bwromero.activity.aggregation.api.service.SnapshotFormat.NamedRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFormatTest {
+
+    @Test
+    void snapshot_shouldRoundTrip() throws IOException {
+        Fingerprint fingerprint = new Fingerprint(2, 42L);
+        List<NamedRow> projects = List.of(new NamedRow(1, "Mars Rover"), new NamedRow(2, "Manhattan"));
+        List<NamedRow> employees = List.of(new NamedRow(1, "Mario"));
+        List<ActivityRow> activities = List.of(
+                new ActivityRow(1, 1, 1, OffsetDateTime.parse("2021-08-27T10:00:00.123456Z"), 5),
+                new ActivityRow(2, 2, 1, OffsetDateTime.parse("2021-09-01T10:00:00+02:00"), 3));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SnapshotFormat.writeHeader(out, fingerprint);
+            SnapshotFormat.writeNamedRows(out, projects);
+            SnapshotFormat.writeNamedRows(out, employees);
+            for (ActivityRow row : activities) {
+                SnapshotFormat.writeActivity(out, row);
+            }
+            SnapshotFormat.writeEnd(out);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(fingerprint, SnapshotFormat.readHeader(in));
+            assertEquals(projects, SnapshotFormat.readNamedRows(in));
+            assertEquals(employees, SnapshotFormat.readNamedRows(in));
+            assertEquals(activities.get(0), SnapshotFormat.readActivity(in));
+            assertEquals(activities.get(1), SnapshotFormat.readActivity(in));
+            assertNull(SnapshotFormat.readActivity(in));
+        }
+    }
+
+    @Test
+    void namedRows_shouldRoundTripMissingNames() throws IOException {
+        List<NamedRow> rows = List.of(new NamedRow(1, null), new NamedRow(2, ""), new NamedRow(3, "Apollo"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SnapshotFormat.writeNamedRows(out, rows);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(rows, SnapshotFormat.readNamedRows(in));
+        }
+    }
+
+    @Test
+    void readHeader_shouldRejectForeignFiles() {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[32]));
+
+        assertThrows(IOException.class, () -> SnapshotFormat.readHeader(in));
+    }
+}